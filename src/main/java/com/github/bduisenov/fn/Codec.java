@@ -0,0 +1,92 @@
+package com.github.bduisenov.fn;
+
+import io.vavr.Tuple2;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A binary codec which writes values to and reads them from a {@link ByteBuffer}
+ * (including a {@link java.nio.MappedByteBuffer}) at its current position,
+ * advancing the position past the encoded bytes.
+ *
+ * @param <T>
+ */
+public interface Codec<T> {
+
+    void write(T value, ByteBuffer buffer);
+
+    T read(ByteBuffer buffer);
+
+    static Codec<Integer> int32() {
+        return new Codec<Integer>() {
+            @Override
+            public void write(Integer value, ByteBuffer buffer) {
+                buffer.putInt(value);
+            }
+
+            @Override
+            public Integer read(ByteBuffer buffer) {
+                return buffer.getInt();
+            }
+        };
+    }
+
+    static Codec<Long> int64() {
+        return new Codec<Long>() {
+            @Override
+            public void write(Long value, ByteBuffer buffer) {
+                buffer.putLong(value);
+            }
+
+            @Override
+            public Long read(ByteBuffer buffer) {
+                return buffer.getLong();
+            }
+        };
+    }
+
+    // Length-prefixed UTF-8 string
+    static Codec<String> utf8() {
+        return new Codec<String>() {
+            @Override
+            public void write(String value, ByteBuffer buffer) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                buffer.putInt(bytes.length);
+                buffer.put(bytes);
+            }
+
+            @Override
+            public String read(ByteBuffer buffer) {
+                int length = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new IllegalArgumentException("String of " + length + " bytes does not fit in the " + buffer.remaining() + " remaining");
+                }
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    static <A, B> ThoseCodec<A, B> those(Codec<A> leftCodec, Codec<B> rightCodec) {
+        return new ThoseCodec<>(leftCodec, rightCodec);
+    }
+
+    // Encodes the result of running a {@link State}: the final state followed by the value.
+    static <S, A> Codec<Tuple2<S, A>> tuple(Codec<S> stateCodec, Codec<A> valueCodec) {
+        return new Codec<Tuple2<S, A>>() {
+            @Override
+            public void write(Tuple2<S, A> value, ByteBuffer buffer) {
+                stateCodec.write(value._1, buffer);
+                valueCodec.write(value._2, buffer);
+            }
+
+            @Override
+            public Tuple2<S, A> read(ByteBuffer buffer) {
+                S s = stateCodec.read(buffer);
+                return new Tuple2<>(s, valueCodec.read(buffer));
+            }
+        };
+    }
+}
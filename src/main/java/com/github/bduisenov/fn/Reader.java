@@ -5,8 +5,6 @@ import io.vavr.Tuple2;
 import io.vavr.Tuple3;
 import io.vavr.Tuple4;
 
-import static io.vavr.API.Tuple;
-import static io.vavr.Function1.constant;
 import static io.vavr.Function1.identity;
 
 /**
@@ -32,7 +30,8 @@ public class Reader<R, A> {
 
     // Executes a computation in a modified environment
     public Reader<R, A> local(Function1<R, R> f) {
-        return new Reader<>(f.andThen(reader));
+        return new Reader<>(e ->
+                reader.apply(f.apply(e)));
     }
 
     // Functor
@@ -49,15 +48,15 @@ public class Reader<R, A> {
 
     // Cartesian
     public <B> Reader<R, Tuple2<A, B>> product(Reader<R, B> r) {
-        return new Reader<>(c -> Tuple(this.runReader(c), r.runReader(c)));
+        return new Reader<>(c -> new Tuple2<>(this.runReader(c), r.runReader(c)));
     }
 
     public <B, C> Reader<R, Tuple3<A, B, C>> product(Reader<R, B> r, Reader<R, C> s) {
-        return new Reader<>(c -> Tuple(this.runReader(c), r.runReader(c), s.runReader(c)));
+        return new Reader<>(c -> new Tuple3<>(this.runReader(c), r.runReader(c), s.runReader(c)));
     }
 
     public <B, C, D> Reader<R, Tuple4<A, B, C, D>> product(Reader<R, B> r, Reader<R, C> s, Reader<R, D> t) {
-        return new Reader<>(c -> Tuple(this.runReader(c), r.runReader(c), s.runReader(c), t.runReader(c)));
+        return new Reader<>(c -> new Tuple4<>(this.runReader(c), r.runReader(c), s.runReader(c), t.runReader(c)));
     }
 
     public static <R, A> Function1<R, A> runReader(Reader<R, A> reader) {
@@ -82,7 +81,7 @@ public class Reader<R, A> {
 
     // Pointed
     public static <R, A> Reader<R, A> pure(A a) {
-        return new Reader<>(constant(a));
+        return new Reader<>($_ -> a);
     }
 
     // MonadOps
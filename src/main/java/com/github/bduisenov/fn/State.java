@@ -6,7 +6,6 @@ import io.vavr.Tuple2;
 import io.vavr.Tuple3;
 import io.vavr.Tuple4;
 
-import static io.vavr.API.Tuple;
 import static io.vavr.Function1.identity;
 
 /**
@@ -65,26 +64,32 @@ public class State<SA, SB, A> {
 
     // Executes an action that can modify the inner state.
     public <SC> State<SA, SC, A> withState(Function1<SB, SC> f) {
-        return transform((s, a) -> Tuple(f.apply(s), a));
+        return transform((s, a) -> new Tuple2<>(f.apply(s), a));
     }
 
     // Like {@link #map}, but also allows the state (`S`) value to be modified.
     public <B, SC> State<SA, SC, B> transform(Function2<SB, A, Tuple2<SC, B>> f) {
-        return new State<>(runState.andThen(f.tupled()));
+        return new State<>(s -> {
+            Tuple2<SB, A> sba = runState.apply(s);
+            return f.apply(sba._1, sba._2);
+        });
     }
 
     // Functor
     public <B> State<SA, SB, B> map(Function1<A, B> f) {
-        return transform((s, a) -> Tuple(s, f.apply(a)));
+        return transform((s, a) -> new Tuple2<>(s, f.apply(a)));
     }
 
     public <SC, B> State<SA, SC, B> bimap(Function1<SB, SC> f, Function1<A, B> g) {
-        return transform((s, a) -> Tuple(f.apply(s), g.apply(a)));
+        return transform((s, a) -> new Tuple2<>(f.apply(s), g.apply(a)));
     }
 
     // Monad
     public <B, SC> State<SA, SC, B> flatMap(Function1<A, State<SB, SC, B>> fas) {
-        return new State<>(runState.andThen(sba -> fas.apply(sba._2).run(sba._1)));
+        return new State<>(s -> {
+            Tuple2<SB, A> sba = runState.apply(s);
+            return fas.apply(sba._2).run(sba._1);
+        });
     }
 
     // Applicative
@@ -100,7 +105,7 @@ public class State<SA, SB, A> {
         return new State<>(s -> {
             Tuple2<SB, B> sbb = sasbb.runState.apply(s);
             Tuple2<SB, A> sba = runState.apply(s);
-            return Tuple(sba._1, Tuple(sba._2, sbb._2));
+            return new Tuple2<>(sba._1, new Tuple2<>(sba._2, sbb._2));
         });
     }
 
@@ -109,7 +114,7 @@ public class State<SA, SB, A> {
             Tuple2<SB, C> sbc = sasbc.runState.apply(s);
             Tuple2<SB, B> sbb = sasbb.runState.apply(s);
             Tuple2<SB, A> sba = runState.apply(s);
-            return Tuple(sba._1, Tuple(sba._2, sbb._2, sbc._2));
+            return new Tuple2<>(sba._1, new Tuple3<>(sba._2, sbb._2, sbc._2));
         });
     }
 
@@ -119,7 +124,7 @@ public class State<SA, SB, A> {
             Tuple2<SB, C> dbc = sasbc.runState.apply(c);
             Tuple2<SB, B> sbb = sasbb.runState.apply(c);
             Tuple2<SB, A> sba = runState.apply(c);
-            return Tuple(sba._1, Tuple(sba._2, sbb._2, dbc._2, sbd._2));
+            return new Tuple2<>(sba._1, new Tuple4<>(sba._2, sbb._2, dbc._2, sbd._2));
         });
     }
 
@@ -130,22 +135,22 @@ public class State<SA, SB, A> {
 
     // Sets the state.
     public static <S> State<S, S, Void> put(S s) {
-        return new State<>($_ -> Tuple(s, null));
+        return new State<>($_ -> new Tuple2<>(s, null));
     }
 
     // Gets a specific component of the state using a projection function.
     public static <S, T> State<S, S, T> gets(Function1<S, T> f) {
-        return new State<>(s -> Tuple(s, f.apply(s)));
+        return new State<>(s -> new Tuple2<>(s, f.apply(s)));
     }
 
     // Updates the state with the result of executing the given function.
     public static <SA, SB> State<SA, SB, Void> modify(Function1<SA, SB> f) {
-        return new State<>(sa -> Tuple(f.apply(sa), null));
+        return new State<>(sa -> new Tuple2<>(f.apply(sa), null));
     }
 
     @SuppressWarnings("unchecked")
     public static <SA, SB, A> State<SA, SB, A> pure(A a) {
-        return new State<>(s -> (Tuple2<SB, A>)Tuple(s, a));
+        return new State<>(s -> (Tuple2<SB, A>) new Tuple2<>(s, a));
     }
 
     public static <S, A> State<S, S, A> state(Function1<S, Tuple2<S, A>> runState) {
@@ -0,0 +1,44 @@
+package com.github.bduisenov.fn;
+
+import io.vavr.Tuple2;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A mutable reference to a piece of state shared between threads, updated by
+ * running {@link State} transitions against it.
+ * Updates are lock-free: a transition is run against the current state and the
+ * resulting state is published with compare-and-set, retrying on contention.
+ * A transition may therefore be run more than once and must be free of side effects.
+ *
+ * @param <S>
+ */
+public class StateRef<S> {
+
+    private final AtomicReference<S> ref;
+
+    public StateRef(S initial) {
+        this.ref = new AtomicReference<>(initial);
+    }
+
+    // Fetches the current value of the state
+    public S get() {
+        return ref.get();
+    }
+
+    // Runs the transition against the current state, publishes the updated state
+    // and returns the value produced by the transition.
+    public <A> A run(State<S, S, A> state) {
+        for (;;) {
+            S current = ref.get();
+            Tuple2<S, A> result = state.run(current);
+            if (ref.compareAndSet(current, result._1)) {
+                return result._2;
+            }
+        }
+    }
+
+    public static <S> StateRef<S> stateRef(S initial) {
+        return new StateRef<>(initial);
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.bduisenov.fn;
+
+import io.vavr.Tuple2;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BinaryOperator;
+
+/**
+ * A piece of state shared between threads and updated by running {@link State}
+ * transitions against it, like {@link StateRef}, but partitioned into several cells
+ * to spread contended updates in the same manner as {@link java.util.concurrent.atomic.LongAdder}.
+ * Until the first lost race every transition runs against a single base value. After
+ * that, transitions run against the cell picked by the calling thread's probe, and a
+ * thread that loses a race rehashes its probe and moves to another cell. The base and
+ * the cells are combined with `merge` whenever the state is read.
+ *
+ * An uncontended instance costs one extra reference over {@link StateRef}. The cells
+ * are allocated on first contention and take `(stripes + 1) * 32` array slots
+ * (about 8 KB for 64 stripes with compressed oops). Stripes are rounded up to a power
+ * of two and may not exceed {@value #MAX_STRIPES}.
+ *
+ * Only transitions whose effect does not depend on which cell they run against
+ * (incrementing a counter, adding entries to a map) should be used, and the value
+ * returned by {@link #run} reflects the cell rather than the whole state.
+ * {@link #get} is not an atomic snapshot when updates happen concurrently.
+ *
+ * @param <S>
+ */
+public class StripedStateRef<S> {
+
+    // Cells are spaced 32 slots apart (128 bytes with compressed oops, 256 without),
+    // so no two cells share a cache line or an adjacent-line prefetch pair.
+    private static final int SHIFT = 5;
+
+    public static final int MAX_STRIPES = 1 << 16;
+
+    // Per-thread probe shared by all instances, rehashed whenever an update loses a race
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() ->
+            new int[]{ThreadLocalRandom.current().nextInt() | 1});
+
+    private final AtomicReference<S> base;
+
+    private volatile AtomicReferenceArray<S> cells;
+
+    private final int mask;
+
+    private final S empty;
+
+    private final BinaryOperator<S> merge;
+
+    public StripedStateRef(S empty, BinaryOperator<S> merge) {
+        this(empty, merge, Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES));
+    }
+
+    public StripedStateRef(S empty, BinaryOperator<S> merge, int stripes) {
+        if (merge == null) {
+            throw new NullPointerException("merge must be specified");
+        }
+        if (stripes < 1 || stripes > MAX_STRIPES) {
+            throw new IllegalArgumentException("stripes must be between 1 and " + MAX_STRIPES);
+        }
+
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+
+        this.base = new AtomicReference<>(empty);
+        this.mask = size - 1;
+        this.empty = empty;
+        this.merge = merge;
+    }
+
+    // Fetches the current value of the state by merging the base with all cells
+    public S get() {
+        S acc = base.get();
+        AtomicReferenceArray<S> cs = cells;
+        if (cs != null) {
+            for (int i = 0; i <= mask; i++) {
+                acc = merge.apply(acc, cs.get(slot(i)));
+            }
+        }
+        return acc;
+    }
+
+    // Runs the transition against the base until it is first contended, then against
+    // the cell of the calling thread, rehashing the thread's probe whenever the update
+    // loses a race.
+    public <A> A run(State<S, S, A> state) {
+        AtomicReferenceArray<S> cs = cells;
+        if (cs == null) {
+            S current = base.get();
+            Tuple2<S, A> result = state.run(current);
+            if (base.compareAndSet(current, result._1)) {
+                return result._2;
+            }
+            cs = cells();
+        }
+
+        int[] probe = PROBE.get();
+        for (;;) {
+            int slot = slot(probe[0] & mask);
+            S current = cs.get(slot);
+            Tuple2<S, A> result = state.run(current);
+            if (cs.compareAndSet(slot, current, result._1)) {
+                return result._2;
+            }
+            probe[0] = advanceProbe(probe[0]);
+        }
+    }
+
+    private AtomicReferenceArray<S> cells() {
+        AtomicReferenceArray<S> cs = cells;
+        if (cs == null) {
+            synchronized (this) {
+                cs = cells;
+                if (cs == null) {
+                    // The slots before the first cell and after the last one pad against
+                    // the array header and neighbouring objects.
+                    cs = new AtomicReferenceArray<>((mask + 2) << SHIFT);
+                    for (int i = 0; i <= mask; i++) {
+                        cs.set(slot(i), empty);
+                    }
+                    cells = cs;
+                }
+            }
+        }
+        return cs;
+    }
+
+    private static int slot(int cell) {
+        return (cell + 1) << SHIFT;
+    }
+
+    // Marsaglia xorshift, as used by LongAdder
+    private static int advanceProbe(int probe) {
+        probe ^= probe << 13;
+        probe ^= probe >>> 17;
+        probe ^= probe << 5;
+        return probe;
+    }
+}
@@ -1,6 +1,5 @@
 package com.github.bduisenov.fn;
 
-import io.vavr.API;
 import io.vavr.Tuple2;
 import io.vavr.control.Either;
 import io.vavr.control.Option;
@@ -9,11 +8,8 @@ import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
-import static io.vavr.API.Left;
-import static io.vavr.API.None;
-import static io.vavr.API.Right;
-import static io.vavr.API.Some;
-import static io.vavr.API.Tuple;
+import static io.vavr.control.Option.none;
+import static io.vavr.control.Option.some;
 import static java.util.function.Function.identity;
 
 /*
@@ -86,31 +82,31 @@ public abstract class Those<A, B> {
     }
 
     public Option<A> left() {
-        return fold(API::Some, $_ -> None(), (left, $_) -> Some(left));
+        return fold(Option::some, $_ -> none(), (left, $_) -> some(left));
     }
 
     public Option<B> right() {
-        return fold($_ -> None(), API::Some, ($_, right) -> Some(right));
+        return fold($_ -> none(), Option::some, ($_, right) -> some(right));
     }
 
     public Option<A> onlyLeft() {
-        return fold(API::Some, $_ -> None(), ($1, $2) -> None());
+        return fold(Option::some, $_ -> none(), ($1, $2) -> none());
     }
 
     public Option<B> onlyRight() {
-        return fold($_ -> None(), API::Some, ($1, $2) -> None());
+        return fold($_ -> none(), Option::some, ($1, $2) -> none());
     }
 
     public Option<Either<A, B>> onlyLeftOrRight() {
-        return fold(left -> Some(Left(left)), right -> Some(Right(right)), ($1, $2) -> None());
+        return fold(left -> some(Either.left(left)), right -> some(Either.right(right)), ($1, $2) -> none());
     }
 
     public Option<Tuple2<A, B>> onlyBoth() {
-        return fold($_ -> None(), $_ -> None(), (left, right) -> Some(Tuple(left, right)));
+        return fold($_ -> none(), $_ -> none(), (left, right) -> some(new Tuple2<>(left, right)));
     }
 
     public Either<A, B> toEither() {
-        return fold(API::Left, API::Right, ($_, right) -> Right(right));
+        return fold(Either::left, Either::right, ($_, right) -> Either.right(right));
     }
 
     public Option<B> toOption() {
@@ -139,15 +135,15 @@ public abstract class Those<A, B> {
     static <A, B> Option<Those<A, B>> fromOptions(Option<A> oa, Option<B> ob) {
         if (oa.isDefined()) {
             if (ob.isDefined()) {
-                return Some(These(oa.get(), ob.get()));
+                return some(These(oa.get(), ob.get()));
             } else {
-                return Some(That(oa.get()));
+                return some(That(oa.get()));
             }
         } else {
             if (ob.isDefined()) {
-                return Some(This(ob.get()));
+                return some(This(ob.get()));
             } else {
-                return None();
+                return none();
             }
         }
     }
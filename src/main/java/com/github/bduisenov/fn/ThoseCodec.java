@@ -0,0 +1,213 @@
+package com.github.bduisenov.fn;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+import static com.github.bduisenov.fn.Those.That;
+import static com.github.bduisenov.fn.Those.These;
+import static com.github.bduisenov.fn.Those.This;
+
+/**
+ * Binary codec for {@link Those}. A value is encoded as one tag byte followed by
+ * each present side, left first, as a length prefix and the bytes written by the
+ * side's codec. The length prefixes let {@link #readLazy} and {@link #skip} pass
+ * over a side without decoding it.
+ *
+ * @param <A>
+ * @param <B>
+ */
+public class ThoseCodec<A, B> implements Codec<Those<A, B>> {
+
+    private static final byte THAT = 0;
+
+    private static final byte THIS = 1;
+
+    private static final byte THESE = 2;
+
+    private final Codec<A> leftCodec;
+
+    private final Codec<B> rightCodec;
+
+    public ThoseCodec(Codec<A> leftCodec, Codec<B> rightCodec) {
+        if (leftCodec == null) {
+            throw new NullPointerException("leftCodec must be specified");
+        }
+        if (rightCodec == null) {
+            throw new NullPointerException("rightCodec must be specified");
+        }
+
+        this.leftCodec = leftCodec;
+        this.rightCodec = rightCodec;
+    }
+
+    /**
+     * Writes the value at the buffer's position. If writing fails part way, for example
+     * with {@link java.nio.BufferOverflowException}, the position is restored to where
+     * the record started before the exception is rethrown, so no partial record is left.
+     *
+     * @param value  the value to encode
+     * @param buffer the target buffer
+     */
+    @Override
+    public void write(Those<A, B> value, ByteBuffer buffer) {
+        int start = buffer.position();
+        try {
+            writeRecord(value, buffer);
+        } catch (RuntimeException e) {
+            ((Buffer) buffer).position(start);
+            throw e;
+        }
+    }
+
+    private void writeRecord(Those<A, B> value, ByteBuffer buffer) {
+        value.fold(
+                left -> {
+                    buffer.put(THAT);
+                    writeSide(leftCodec, left, buffer);
+                    return null;
+                },
+                right -> {
+                    buffer.put(THIS);
+                    writeSide(rightCodec, right, buffer);
+                    return null;
+                },
+                (left, right) -> {
+                    buffer.put(THESE);
+                    writeSide(leftCodec, left, buffer);
+                    writeSide(rightCodec, right, buffer);
+                    return null;
+                });
+    }
+
+    @Override
+    public Those<A, B> read(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case THAT:
+                return That(readSide(leftCodec, buffer));
+            case THIS:
+                return This(readSide(rightCodec, buffer));
+            case THESE:
+                A left = readSide(leftCodec, buffer);
+                return These(left, readSide(rightCodec, buffer));
+            default:
+                throw new IllegalArgumentException("Unknown tag of Those: " + tag);
+        }
+    }
+
+    /**
+     * Reads the shape of the value and advances the buffer past it, but leaves each
+     * side encoded until its supplier is first called. Each supplier keeps a view of
+     * the underlying buffer until it has decoded its side, and the buffer must not be
+     * modified before then.
+     *
+     * @param buffer the source buffer
+     * @return the value with each present side decoded on demand
+     */
+    public Those<Supplier<A>, Supplier<B>> readLazy(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case THAT:
+                return That(new Lazy<>(leftCodec, side(buffer)));
+            case THIS:
+                return This(new Lazy<>(rightCodec, side(buffer)));
+            case THESE:
+                Lazy<A> left = new Lazy<>(leftCodec, side(buffer));
+                return These(left, new Lazy<>(rightCodec, side(buffer)));
+            default:
+                throw new IllegalArgumentException("Unknown tag of Those: " + tag);
+        }
+    }
+
+    /**
+     * Advances the buffer past the next value without decoding or allocating anything.
+     *
+     * @param buffer the source buffer
+     */
+    public void skip(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case THAT:
+            case THIS:
+                advance(buffer, buffer.getInt());
+                return;
+            case THESE:
+                advance(buffer, buffer.getInt());
+                advance(buffer, buffer.getInt());
+                return;
+            default:
+                throw new IllegalArgumentException("Unknown tag of Those: " + tag);
+        }
+    }
+
+    private static <T> void writeSide(Codec<T> codec, T value, ByteBuffer buffer) {
+        int lengthAt = buffer.position();
+        buffer.putInt(0);
+        codec.write(value, buffer);
+        buffer.putInt(lengthAt, buffer.position() - lengthAt - Integer.BYTES);
+    }
+
+    // Decodes the next length-prefixed side in place
+    private static <T> T readSide(Codec<T> codec, ByteBuffer buffer) {
+        int length = buffer.getInt();
+        int start = buffer.position();
+        T value = codec.read(buffer);
+        if (buffer.position() - start != length) {
+            throw new IllegalArgumentException("Side of Those has " + length + " bytes but its codec read " + (buffer.position() - start));
+        }
+        return value;
+    }
+
+    // Cuts the next length-prefixed side out of the buffer and advances the buffer past it
+    private static ByteBuffer side(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        ByteBuffer side = buffer.slice().order(buffer.order());
+        // Buffer casts keep the Java 8 method descriptors when built on a newer JDK
+        ((Buffer) side).limit(length);
+        advance(buffer, length);
+        return side;
+    }
+
+    private static void advance(ByteBuffer buffer, int length) {
+        ((Buffer) buffer).position(buffer.position() + length);
+    }
+
+    private static final class Lazy<T> implements Supplier<T> {
+
+        private final Codec<T> codec;
+
+        // Released once decoded so a retained value does not pin the underlying buffer
+        private ByteBuffer source;
+
+        private volatile boolean decoded;
+
+        private T value;
+
+        Lazy(Codec<T> codec, ByteBuffer source) {
+            this.codec = codec;
+            this.source = source;
+        }
+
+        @Override
+        public T get() {
+            if (!decoded) {
+                synchronized (this) {
+                    if (!decoded) {
+                        // Decoding from a duplicate lets a retry after a failure start from
+                        // the beginning of the side
+                        ByteBuffer side = source.duplicate().order(source.order());
+                        T decodedValue = codec.read(side);
+                        if (side.hasRemaining()) {
+                            throw new IllegalArgumentException("Side of Those has " + side.limit() + " bytes but its codec read " + side.position());
+                        }
+                        value = decodedValue;
+                        source = null;
+                        decoded = true;
+                    }
+                }
+            }
+            return value;
+        }
+    }
+}
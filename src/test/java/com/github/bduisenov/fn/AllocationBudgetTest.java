@@ -0,0 +1,216 @@
+package com.github.bduisenov.fn;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import io.vavr.Function1;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.github.bduisenov.fn.Those.That;
+import static com.github.bduisenov.fn.Those.These;
+import static com.github.bduisenov.fn.Those.This;
+import static io.vavr.API.Tuple;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Guards the allocation profile of the public combinators: every operation is
+ * warmed up, then run repeatedly while the bytes allocated by the current thread
+ * are measured, and the average per operation must stay within its budget.
+ *
+ * Budgets are the bytes an interpreted run allocates on HotSpot with compressed oops,
+ * compressed class pointers and 8-byte object alignment (the defaults for heaps below
+ * 32 GB). Each budget adds a margin of {@value #MARGIN_BYTES} bytes plus
+ * 1/{@value #MARGIN_DIVISOR} of the measured figure.
+ *
+ * The build runs this class in its own surefire execution with {@code -Xint}, so the
+ * measurement uses the same mode as the budgets and escape analysis cannot hide an
+ * extra allocation. Outside the interpreter, or on JVMs with a different object
+ * layout, the suite is skipped rather than failed.
+ */
+class AllocationBudgetTest {
+
+    static final int WARMUP = 20_000;
+
+    static final int ITERATIONS = 20_000;
+
+    static final long MARGIN_BYTES = 8;
+
+    static final long MARGIN_DIVISOR = 16;
+
+    static com.sun.management.ThreadMXBean threads;
+
+    static volatile Object sink;
+
+    @BeforeAll
+    static void threadAllocationSupported() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        assumeTrue(hotSpot != null, "budgets are measured on HotSpot");
+        assumeTrue(vmOption(hotSpot, "UseCompressedOops", "true"), "budgets assume compressed oops");
+        assumeTrue(vmOption(hotSpot, "UseCompressedClassPointers", "true"), "budgets assume compressed class pointers");
+        assumeTrue(vmOption(hotSpot, "ObjectAlignmentInBytes", "8"), "budgets assume 8-byte object alignment");
+        assumeTrue(System.getProperty("java.vm.info", "").contains("interpreted mode"), "budgets are measured with -Xint");
+    }
+
+    static boolean vmOption(HotSpotDiagnosticMXBean hotSpot, String name, String expected) {
+        try {
+            return expected.equals(hotSpot.getVMOption(name).getValue());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Bytes allocated by an interpreted run, plus the margin
+    static long budget(long measured) {
+        return measured + MARGIN_BYTES + measured / MARGIN_DIVISOR;
+    }
+
+    static final class Point {
+
+        final Integer x;
+
+        final Integer y;
+
+        Point(Integer x, Integer y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    static final Lens<Point, Integer> X = new Lens<>(p -> p.x, (p, x) -> new Point(x, p.y));
+
+    static final Lens<Integer, Integer> NEGATE = new Lens<>(x -> -x, (x, y) -> -y);
+
+    static final Point POINT = new Point(1, 2);
+
+    static final State<Integer, Integer, Integer> ADD1 = State.state(n -> Tuple(n + 1, n));
+
+    static final Reader<Integer, Integer> DOUBLE = Reader.reader(n -> n * 2);
+
+    static final Function1<Integer, Integer> INC = n -> n + 1;
+
+    static final Function1<Integer, Function1<Integer, Integer>> SUM2 = a -> b -> a + b;
+
+    static final Function1<Integer, Function1<Integer, Function1<Integer, Integer>>> SUM3 = a -> b -> c -> a + b + c;
+
+    static final Those<String, Integer> THAT = That("left");
+
+    static final Those<String, Integer> THIS = This(1);
+
+    static final Those<String, Integer> THESE = These("left", 1);
+
+    static Stream<Arguments> budgets() {
+        return Stream.of(
+                // State
+                arguments("State.run", budget(24), op(() -> ADD1.run(1))),
+                arguments("State.eval", budget(24), op(() -> ADD1.eval(1))),
+                arguments("State.exec", budget(24), op(() -> ADD1.exec(1))),
+                arguments("State.withState", budget(104), op(() -> ADD1.withState(INC).run(1))),
+                arguments("State.transform", budget(88), op(() -> ADD1.transform((s, a) -> Tuple(a, s)).run(1))),
+                arguments("State.map", budget(104), op(() -> ADD1.map(INC).run(1))),
+                arguments("State.bimap", budget(112), op(() -> ADD1.bimap(INC, INC).run(1))),
+                arguments("State.flatMap", budget(88), op(() -> ADD1.flatMap($_ -> ADD1).run(1))),
+                arguments("State.ap", budget(248), op(() -> ADD1.ap(State.pure(INC)).run(1))),
+                arguments("State.product2", budget(136), op(() -> ADD1.product(ADD1).run(1))),
+                arguments("State.product3", budget(160), op(() -> ADD1.product(ADD1, ADD1).run(1))),
+                arguments("State.product4", budget(200), op(() -> ADD1.product(ADD1, ADD1, ADD1).run(1))),
+                arguments("State.get", budget(56), op(() -> State.<Integer>get().run(1))),
+                arguments("State.put", budget(56), op(() -> State.put(2).run(1))),
+                arguments("State.gets", budget(56), op(() -> State.<Integer, Integer>gets(INC).run(1))),
+                arguments("State.modify", budget(56), op(() -> State.<Integer, Integer>modify(INC).run(1))),
+                arguments("State.pure", budget(56), op(() -> State.pure(1).run(1))),
+                arguments("State.state", budget(40), op(() -> State.<Integer, Integer>state(n -> Tuple(n, n)).run(1))),
+                arguments("State.liftA", budget(264), op(() -> State.<Integer, Integer, Integer, Integer>liftA(INC).apply(ADD1).run(1))),
+                arguments("State.liftA2", budget(352), op(() -> State.<Integer, Integer, Integer, Integer, Integer>liftA2(SUM2).apply(ADD1).apply(ADD1).run(1))),
+                arguments("State.liftA3", budget(592), op(() -> State.<Integer, Integer, Integer, Integer, Integer, Integer>liftA3(SUM3).apply(ADD1).apply(ADD1).apply(ADD1).run(1))),
+                arguments("State.liftM", budget(152), op(() -> State.<Integer, Integer, Integer, Integer>liftM(INC).apply(ADD1).run(1))),
+                arguments("State.liftM2", budget(288), op(() -> State.<Integer, Integer, Integer, Integer, Integer>liftM2(SUM2).apply(ADD1).apply(ADD1).run(1))),
+                arguments("State.liftM3", budget(424), op(() -> State.<Integer, Integer, Integer, Integer, Integer, Integer>liftM3(SUM3).apply(ADD1).apply(ADD1).apply(ADD1).run(1))),
+                // Reader
+                arguments("Reader.runReader", budget(0), op(() -> DOUBLE.runReader(1))),
+                arguments("Reader.local", budget(40), op(() -> DOUBLE.local(INC).runReader(1))),
+                arguments("Reader.map", budget(40), op(() -> DOUBLE.map(INC).runReader(1))),
+                arguments("Reader.flatMap", budget(40), op(() -> DOUBLE.flatMap($_ -> DOUBLE).runReader(1))),
+                arguments("Reader.product2", budget(64), op(() -> DOUBLE.product(DOUBLE).runReader(1))),
+                arguments("Reader.product3", budget(64), op(() -> DOUBLE.product(DOUBLE, DOUBLE).runReader(1))),
+                arguments("Reader.product4", budget(80), op(() -> DOUBLE.product(DOUBLE, DOUBLE, DOUBLE).runReader(1))),
+                arguments("Reader.runReader(reader)", budget(16), op(() -> Reader.runReader(DOUBLE).apply(1))),
+                arguments("Reader.reader", budget(16), op(() -> Reader.<Integer, Integer>reader(INC).runReader(1))),
+                arguments("Reader.ask", budget(16), op(() -> Reader.<Integer>ask().runReader(1))),
+                arguments("Reader.asks", budget(16), op(() -> Reader.<Integer, Integer>asks(INC).runReader(1))),
+                arguments("Reader.pure", budget(32), op(() -> Reader.pure(1).runReader(1))),
+                arguments("Reader.liftM", budget(104), op(() -> Reader.<Integer, Integer, Integer>liftM(INC).apply(DOUBLE).runReader(1))),
+                arguments("Reader.liftM2", budget(216), op(() -> Reader.<Integer, Integer, Integer, Integer>liftM2(SUM2).apply(DOUBLE).apply(DOUBLE).runReader(1))),
+                arguments("Reader.liftM3", budget(328), op(() -> Reader.<Integer, Integer, Integer, Integer, Integer>liftM3(SUM3).apply(DOUBLE).apply(DOUBLE).apply(DOUBLE).runReader(1))),
+                // Those
+                arguments("Those.That", budget(16), op(() -> That("left"))),
+                arguments("Those.This", budget(16), op(() -> This(1))),
+                arguments("Those.These", budget(24), op(() -> These("left", 1))),
+                arguments("Those.fold", budget(0), op(() -> THESE.fold(String::length, INC, (l, r) -> r))),
+                arguments("Those.isLeft", budget(0), op(() -> THAT.isLeft())),
+                arguments("Those.isRight", budget(0), op(() -> THIS.isRight())),
+                arguments("Those.isBoth", budget(0), op(() -> THESE.isBoth())),
+                arguments("Those.left", budget(16), op(() -> THESE.left())),
+                arguments("Those.right", budget(16), op(() -> THESE.right())),
+                arguments("Those.onlyLeft", budget(16), op(() -> THAT.onlyLeft())),
+                arguments("Those.onlyRight", budget(16), op(() -> THIS.onlyRight())),
+                arguments("Those.onlyLeftOrRight", budget(32), op(() -> THIS.onlyLeftOrRight())),
+                arguments("Those.onlyBoth", budget(40), op(() -> THESE.onlyBoth())),
+                arguments("Those.toEither", budget(16), op(() -> THESE.toEither())),
+                arguments("Those.toOption", budget(16), op(() -> THIS.toOption())),
+                arguments("Those.getOrElse", budget(16), op(() -> THIS.getOrElse(2))),
+                arguments("Those.bimap", budget(80), op(() -> THESE.bimap(String::length, INC))),
+                arguments("Those.map", budget(80), op(() -> THESE.map(INC))),
+                arguments("Those.mapLeft", budget(80), op(() -> THESE.mapLeft(String::length))),
+                arguments("Those.fromOptions", budget(72), op(() -> Those.fromOptions(Option.some("left"), Option.some(1)))),
+                arguments("Those.fromEither", budget(32), op(() -> Those.fromEither(Either.right(1)))),
+                // Lens
+                arguments("Lens.get", budget(0), op(() -> X.get(POINT))),
+                arguments("Lens.set", budget(24), op(() -> X.set(POINT, 3))),
+                arguments("Lens.mod", budget(24), op(() -> X.mod(POINT, INC))),
+                arguments("Lens.compose", budget(120), op(() -> NEGATE.compose(X).set(POINT, 3))),
+                arguments("Lens.andThen", budget(120), op(() -> X.andThen(NEGATE).set(POINT, 3))));
+    }
+
+    @ParameterizedTest(name = "{0} <= {1} bytes")
+    @MethodSource("budgets")
+    void allocationPerOperation_withinBudget(String name, long budget, Supplier<Object> op) {
+        long allocated = bytesPerOperation(op);
+
+        assertThat(allocated)
+                .as("bytes allocated per %s", name)
+                .isLessThanOrEqualTo(budget);
+    }
+
+    static Supplier<Object> op(Supplier<Object> op) {
+        return op;
+    }
+
+    static long bytesPerOperation(Supplier<Object> op) {
+        for (int i = 0; i < WARMUP; i++) {
+            sink = op.get();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = op.get();
+        }
+        long after = threads.getThreadAllocatedBytes(threadId);
+
+        return (after - before) / ITERATIONS;
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.bduisenov.fn;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.github.bduisenov.fn.State.state;
+import static io.vavr.API.Tuple;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StateRefTest {
+
+    static final int THREADS = 8;
+
+    static final int UPDATES = 10_000;
+
+    final State<Integer, Integer, Integer> add1 = state(n -> Tuple(n + 1, n));
+
+    @Test
+    void run_returnsValue_andPublishesState() {
+        StateRef<Integer> ref = StateRef.stateRef(1);
+
+        assertThat(ref.run(add1)).isEqualTo(1);
+        assertThat(ref.get()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentUpdates_areNotLost() throws InterruptedException {
+        StateRef<Integer> ref = StateRef.stateRef(0);
+
+        concurrently(() -> ref.run(add1));
+
+        assertThat(ref.get()).isEqualTo(THREADS * UPDATES);
+    }
+
+    @Test
+    void striped_concurrentUpdates_areMergedOnRead() throws InterruptedException {
+        StripedStateRef<Integer> ref = new StripedStateRef<>(0, Integer::sum);
+
+        concurrently(() -> ref.run(add1));
+
+        assertThat(ref.get()).isEqualTo(THREADS * UPDATES);
+    }
+
+    @Test
+    void striped_mapUpdates_areMergedOnRead() {
+        StripedStateRef<Map<String, Integer>> ref = new StripedStateRef<>(HashMap.empty(), Map::merge, 4);
+
+        ref.run(State.modify(m -> m.put("a", 1)));
+        ref.run(State.modify(m -> m.put("b", 2)));
+
+        assertThat(ref.get()).isEqualTo(HashMap.of("a", 1, "b", 2));
+    }
+
+    @Test
+    void striped_maxStripes_allocatesCellsOnContention() {
+        StripedStateRef<Integer> ref = new StripedStateRef<>(0, Integer::sum, StripedStateRef.MAX_STRIPES);
+        AtomicBoolean raced = new AtomicBoolean();
+
+        // The nested update wins the race on the base, so the outer one moves to the cells
+        ref.run(state(n -> {
+            if (raced.compareAndSet(false, true)) {
+                ref.run(add1);
+            }
+            return Tuple(n + 1, n);
+        }));
+
+        assertThat(ref.get()).isEqualTo(2);
+    }
+
+    @Test
+    void striped_stripesOutOfRange_areRejected() {
+        assertThatThrownBy(() -> new StripedStateRef<>(0, Integer::sum, StripedStateRef.MAX_STRIPES + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new StripedStateRef<>(0, Integer::sum, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static void concurrently(Runnable update) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < UPDATES; i++) {
+                        update.run();
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        }
+    }
+}
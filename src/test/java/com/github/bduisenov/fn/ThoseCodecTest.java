@@ -0,0 +1,184 @@
+package com.github.bduisenov.fn;
+
+import io.vavr.Tuple2;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.github.bduisenov.fn.State.state;
+import static com.github.bduisenov.fn.Those.That;
+import static com.github.bduisenov.fn.Those.These;
+import static com.github.bduisenov.fn.Those.This;
+import static io.vavr.API.Tuple;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ThoseCodecTest {
+
+    final ThoseCodec<String, Integer> codec = Codec.those(Codec.utf8(), Codec.int32());
+
+    static Stream<Those<String, Integer>> thoseProvider() {
+        return Stream.of(That("some.value"), This(123), These("some.value", 123));
+    }
+
+    @ParameterizedTest
+    @MethodSource("thoseProvider")
+    void roundtrip(Those<String, Integer> arg) {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        codec.write(arg, buffer);
+        buffer.flip();
+
+        assertThat(codec.read(buffer)).isEqualTo(arg);
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @ParameterizedTest
+    @MethodSource("thoseProvider")
+    void lazyRoundtrip_respectsByteOrder(Those<String, Integer> arg) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64).order(ByteOrder.LITTLE_ENDIAN);
+        codec.write(arg, buffer);
+        buffer.flip();
+
+        Those<Supplier<String>, Supplier<Integer>> lazy = codec.readLazy(buffer);
+
+        assertThat(lazy.bimap(Supplier::get, Supplier::get)).isEqualTo(arg);
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void readLazy_decodesOnlyAccessedSide() {
+        AtomicInteger leftReads = new AtomicInteger();
+        AtomicInteger rightReads = new AtomicInteger();
+        ThoseCodec<String, Integer> counting = Codec.those(counting(Codec.utf8(), leftReads), counting(Codec.int32(), rightReads));
+
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        counting.write(These("first", 1), buffer);
+        counting.write(These("second", 2), buffer);
+        buffer.flip();
+
+        counting.readLazy(buffer);
+        Those<Supplier<String>, Supplier<Integer>> second = counting.readLazy(buffer);
+
+        assertThat(second.isBoth()).isTrue();
+        assertThat(second.right().map(Supplier::get).get()).isEqualTo(2);
+        assertThat(second.right().map(Supplier::get).get()).isEqualTo(2);
+        assertThat(leftReads).hasValue(0);
+        assertThat(rightReads).hasValue(1);
+    }
+
+    @Test
+    void skip_decodesNothing() {
+        AtomicInteger leftReads = new AtomicInteger();
+        AtomicInteger rightReads = new AtomicInteger();
+        ThoseCodec<String, Integer> counting = Codec.those(counting(Codec.utf8(), leftReads), counting(Codec.int32(), rightReads));
+
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        counting.write(These("first", 1), buffer);
+        counting.write(That("second"), buffer);
+        counting.write(This(3), buffer);
+        buffer.flip();
+
+        counting.skip(buffer);
+        counting.skip(buffer);
+
+        assertThat(leftReads).hasValue(0);
+        assertThat(rightReads).hasValue(0);
+        assertThat(counting.read(buffer)).isEqualTo(This(3));
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void read_sideLengthMismatch_fails() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        codec.write(That("some.value"), buffer);
+        buffer.flip();
+
+        ThoseCodec<Integer, Integer> mismatched = Codec.those(Codec.int32(), Codec.int32());
+
+        assertThatThrownBy(() -> mismatched.read(buffer)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void readLazy_getAfterFailure_failsAgainCleanly() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        codec.write(That("some.value"), buffer);
+        buffer.flip();
+        // Corrupt the utf8 length inside the left side: tag (1) + side length (4)
+        buffer.putInt(5, 1000);
+
+        Supplier<String> left = codec.readLazy(buffer).left().get();
+
+        assertThatThrownBy(left::get).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(left::get).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void readLazy_sideLengthMismatch_fails() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        codec.write(That("some.value"), buffer);
+        buffer.flip();
+
+        ThoseCodec<Integer, Integer> mismatched = Codec.those(Codec.int32(), Codec.int32());
+        Supplier<Integer> left = mismatched.readLazy(buffer).left().get();
+
+        assertThatThrownBy(left::get).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void utf8_lengthBeyondRemaining_fails() {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        buffer.putInt(Integer.MAX_VALUE);
+        buffer.flip();
+
+        assertThatThrownBy(() -> Codec.utf8().read(buffer)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void write_overflow_restoresPosition() {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+
+        assertThatThrownBy(() -> codec.write(These("some.value", 123), buffer)).isInstanceOf(BufferOverflowException.class);
+        assertThat(buffer.position()).isEqualTo(0);
+    }
+
+    @Test
+    void read_unknownTag_fails() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[]{7});
+
+        assertThatThrownBy(() -> codec.read(buffer)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void tuple_roundtrip_stateRunResult() {
+        Codec<Tuple2<Integer, String>> tupleCodec = Codec.tuple(Codec.int32(), Codec.utf8());
+        Tuple2<Integer, String> result = state((Integer n) -> Tuple(n + 1, "was " + n)).run(1);
+
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        tupleCodec.write(result, buffer);
+        buffer.flip();
+
+        assertThat(tupleCodec.read(buffer)).isEqualTo(Tuple(2, "was 1"));
+    }
+
+    static <T> Codec<T> counting(Codec<T> codec, AtomicInteger reads) {
+        return new Codec<T>() {
+            @Override
+            public void write(T value, ByteBuffer buffer) {
+                codec.write(value, buffer);
+            }
+
+            @Override
+            public T read(ByteBuffer buffer) {
+                reads.incrementAndGet();
+                return codec.read(buffer);
+            }
+        };
+    }
+}